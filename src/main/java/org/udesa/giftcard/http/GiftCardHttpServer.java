@@ -0,0 +1,257 @@
+package org.udesa.giftcard.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.udesa.giftcard.model.FacadeGiftCard;
+import org.udesa.giftcard.model.Session;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Endpoint HTTP opcional sobre un {@link FacadeGiftCard}, con el HttpServer del JDK.
+ *
+ *   POST /login                           user, pass          -> {"token":...}
+ *   POST /cards/{cardId}/claim            Bearer {token}      -> {"ok":true}
+ *   GET  /cards/{cardId}/balance          Bearer {token}      -> {"balance":...}
+ *   GET  /cards/{cardId}/movements        Bearer {token}      -> {"movements":[...]}
+ *   POST /merchants/{merchantId}/charges  Bearer {clave del merchant}; user, card, amount -> {"ok":true}
+ *
+ * Tokens y claves viajan en el header "Authorization: Bearer ...", nunca en la URL (que queda en
+ * los logs de accesos y proxies). Todos los parámetros son obligatorios y no vacíos; el monto debe
+ * ser positivo, con a lo sumo 2 decimales y 12 dígitos enteros. Los cargos solo se aceptan con la
+ * clave que el merchant tiene en {@code merchantKeys}; un merchant sin clave no puede cobrar por HTTP.
+ *
+ * Los POST reciben application/x-www-form-urlencoded. Cada request corre en su propio virtual
+ * thread cuando el JDK los tiene (21+); si no, en un pool. El HttpServer ya mantiene las
+ * conexiones keep-alive y atiende en orden los requests encolados (pipelining) de cada conexión.
+ * El facade no es thread-safe, así que las llamadas al facade se serializan con un lock; parseo,
+ * validación y JSON quedan fuera de él.
+ *
+ * El HttpServer del JDK escribe headers y body por separado y solo activa TCP_NODELAY con la
+ * propiedad de JVM {@code -Dsun.net.httpserver.nodelay=true}, que lee una única vez. Sin ella cada
+ * respuesta keep-alive espera el ACK demorado del cliente (~40ms): la aplicación que embebe el
+ * server debería pasarla al arrancar la JVM.
+ */
+public final class GiftCardHttpServer {
+    public static final String NotFound = "Not found";
+    public static final String MethodNotAllowed = "Method not allowed";
+    public static final String InvalidMerchantCredentials = "Invalid merchant credentials";
+    public static final String MissingUserToken = "Missing user token";
+    public static final String InvalidAmount = "Invalid amount";
+
+    private static final int MAX_AMOUNT_LENGTH = 32;
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 12;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final FacadeGiftCard facade;
+    private final Map<String, byte[]> merchantKeys;   // merchantId -> clave
+    private final ReentrantLock facadeLock = new ReentrantLock();
+
+    public static GiftCardHttpServer startedOn(InetSocketAddress address,
+                                               FacadeGiftCard facade,
+                                               Map<String, String> merchantKeys) {
+        try {
+            GiftCardHttpServer s = new GiftCardHttpServer(HttpServer.create(address, 0), facade, merchantKeys);
+            s.server.start();
+            return s;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private GiftCardHttpServer(HttpServer server, FacadeGiftCard facade, Map<String, String> merchantKeys) {
+        this.server = server;
+        this.facade = facade;
+        this.merchantKeys = new HashMap<>();
+        merchantKeys.forEach((id, key) -> this.merchantKeys.put(id, key.getBytes(StandardCharsets.UTF_8)));
+        this.executor = requestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public int port() { return server.getAddress().getPort(); }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    // ===== ruteo =====
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                respond(exchange, 200, route(exchange));
+            } catch (HttpError e) {
+                respond(exchange, e.status, Json.field("error", e.getMessage()));
+            } catch (RuntimeException e) {
+                respond(exchange, statusFor(e.getMessage()), Json.field("error", String.valueOf(e.getMessage())));
+            }
+        }
+    }
+
+    private byte[] route(HttpExchange exchange) throws IOException {
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        String method = exchange.getRequestMethod();
+
+        if (path.length == 2 && path[1].equals("login")) {
+            Map<String, String> form = form(exchange, "POST");
+            String user = required(form, "user");
+            String pass = required(form, "pass");
+            return Json.field("token", withFacade(() -> facade.loginFor(user, pass)));
+        }
+        if (path.length == 4 && path[1].equals("cards")) {
+            String cardId = path[2];
+            switch (path[3]) {
+                case "claim": {
+                    form(exchange, "POST");
+                    String token = bearer(exchange, MissingUserToken);
+                    withFacade(() -> { facade.claimCardIdentifiedAs(token, cardId); return null; });
+                    return Json.OK;
+                }
+                case "balance": {
+                    assertMethod(method, "GET");
+                    String token = bearer(exchange, MissingUserToken);
+                    return Json.balance(withFacade(() -> facade.balanceOfCardIdentifiedAs(token, cardId)));
+                }
+                case "movements": {
+                    assertMethod(method, "GET");
+                    String token = bearer(exchange, MissingUserToken);
+                    // movements() ya devuelve una copia: se codifica fuera del lock
+                    return Json.movements(withFacade(() -> facade.movementsOfCardIdentifiedAs(token, cardId)));
+                }
+                default:
+                    throw new HttpError(404, NotFound);
+            }
+        }
+        if (path.length == 4 && path[1].equals("merchants") && path[3].equals("charges")) {
+            Map<String, String> form = form(exchange, "POST");
+            String merchantId = path[2];
+            assertMerchantKey(exchange, merchantId);
+            String user = required(form, "user");
+            String card = required(form, "card");
+            BigDecimal amount = amountFrom(required(form, "amount"));   // validado antes de tomar el lock
+            withFacade(() -> { facade.chargeNotifiedByMerchant(merchantId, user, card, amount); return null; });
+            return Json.OK;
+        }
+        throw new HttpError(404, NotFound);
+    }
+
+    // ReentrantLock y no synchronized: un virtual thread bloqueado en un monitor fija su carrier (JDK 21-23)
+    private <T> T withFacade(Supplier<T> call) {
+        facadeLock.lock();
+        try {
+            return call.get();
+        } finally {
+            facadeLock.unlock();
+        }
+    }
+
+    private static int statusFor(String message) {
+        if (FacadeGiftCard.invalidUserAndOrPasswordErrorDescription.equals(message)
+                || Session.invalidTokenErrorDescription.equals(message)
+                || Session.tokenHasExpiredErrorDescription.equals(message)) return 401;
+        if (FacadeGiftCard.invalidCardIdErrorDescription.equals(message)) return 404;
+        if (FacadeGiftCard.merchantRateLimitExceededErrorDescription.equals(message)
+                || FacadeGiftCard.tooManyConcurrentChargesErrorDescription.equals(message)) return 429;
+        return 400;
+    }
+
+    // ===== helpers =====
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static Map<String, String> form(HttpExchange exchange, String expectedMethod) throws IOException {
+        if (!exchange.getRequestMethod().equals(expectedMethod)) throw new HttpError(405, MethodNotAllowed);
+        try (InputStream in = exchange.getRequestBody()) {
+            return decode(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void assertMethod(String method, String expected) {
+        if (!method.equals(expected)) throw new HttpError(405, MethodNotAllowed);
+    }
+
+    private static String bearer(HttpExchange exchange, String missingDescription) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization == null || !authorization.startsWith("Bearer ") || authorization.length() == 7)
+            throw new HttpError(401, missingDescription);
+        return authorization.substring(7);
+    }
+
+    // positivo, a lo sumo 2 decimales y 12 dígitos enteros: "1E100000000" no llega a setScale
+    private static BigDecimal amountFrom(String raw) {
+        if (raw.length() > MAX_AMOUNT_LENGTH) throw new HttpError(400, InvalidAmount);
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(raw);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, InvalidAmount);
+        }
+        if (amount.signum() <= 0 || amount.precision() - amount.scale() > MAX_AMOUNT_INTEGER_DIGITS
+                || amount.stripTrailingZeros().scale() > 2)
+            throw new HttpError(400, InvalidAmount);
+        return amount;
+    }
+
+    private static Map<String, String> decode(String encoded) {
+        Map<String, String> params = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) return params;
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                       URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isEmpty()) throw new HttpError(400, "Missing parameter: " + name);
+        return value;
+    }
+
+    private void assertMerchantKey(HttpExchange exchange, String merchantId) {
+        byte[] expected = merchantKeys.get(merchantId);
+        String key = bearer(exchange, InvalidMerchantCredentials);
+        if (expected == null || !MessageDigest.isEqual(expected, key.getBytes(StandardCharsets.UTF_8)))
+            throw new HttpError(401, InvalidMerchantCredentials);
+    }
+
+    // virtual thread por request si el JDK los soporta; si no, pool de threads de plataforma
+    private static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.udesa.giftcard.http;
+
+import org.udesa.giftcard.model.Movement;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/** Encoder JSON mínimo para las respuestas: escribe directo sobre un StringBuilder, sin árbol intermedio. */
+final class Json {
+
+    private Json() { }
+
+    static byte[] field(String name, String value) {
+        StringBuilder sb = new StringBuilder(32 + value.length());
+        sb.append("{\"").append(name).append("\":");
+        appendString(sb, value);
+        return bytes(sb.append('}'));
+    }
+
+    static byte[] balance(BigDecimal balance) {
+        StringBuilder sb = new StringBuilder(32);
+        sb.append("{\"balance\":");
+        appendAmount(sb, balance);
+        return bytes(sb.append('}'));
+    }
+
+    static byte[] movements(List<Movement> movements) {
+        StringBuilder sb = new StringBuilder(16 + movements.size() * 112);
+        sb.append("{\"movements\":[");
+        for (int i = 0; i < movements.size(); i++) {
+            if (i > 0) sb.append(',');
+            Movement m = movements.get(i);
+            sb.append("{\"when\":\"");
+            DateTimeFormatter.ISO_INSTANT.formatTo(m.when(), sb);
+            sb.append("\",\"merchantId\":");
+            appendString(sb, m.merchantId());
+            sb.append(",\"amount\":");
+            appendAmount(sb, m.amount());
+            sb.append(",\"description\":");
+            appendString(sb, m.description());
+            sb.append('}');
+        }
+        return bytes(sb.append("]}"));
+    }
+
+    static final byte[] OK = bytes(new StringBuilder("{\"ok\":true}"));
+
+    // montos normalizados a 2 decimales: se escriben desde el unscaled long sin pasar por toPlainString
+    static void appendAmount(StringBuilder sb, BigDecimal amount) {
+        if (amount.scale() != 2 || amount.precision() > 18) {
+            sb.append(amount.toPlainString());
+            return;
+        }
+        long unscaled = amount.unscaledValue().longValue();
+        if (unscaled < 0) { sb.append('-'); unscaled = -unscaled; }
+        long cents = unscaled % 100;
+        sb.append(unscaled / 100).append('.');
+        if (cents < 10) sb.append('0');
+        sb.append(cents);
+    }
+
+    static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n");  break;
+                case '\r': sb.append("\\r");  break;
+                case '\t': sb.append("\\t");  break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private static byte[] bytes(StringBuilder sb) {
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -11,4 +11,6 @@ public class Clock {
     }
 
     public Instant nowInstant()     { return Instant.now(); }
+
+    public long nanoTime()          { return System.nanoTime(); }
 }
\ No newline at end of file
@@ -12,18 +12,43 @@ public class FacadeGiftCard {
     public static String cardNotClaimedByUserErrorDescription = "Gift card not claimed by user";
     public static String invalidMerchantErrorDescription = "Invalid merchant";
     public static String notEnoughBalanceErrorDescription = "Insufficient balance";
+    public static String merchantRateLimitExceededErrorDescription = MerchantRateLimiter.RateLimitExceeded;
+    public static String tooManyConcurrentChargesErrorDescription = MerchantRateLimiter.TooManyConcurrentCharges;
 
     private final Map<String, GiftCard> giftCards;   // cardId -> GiftCard
     private final Set<String> validMerchantIds;      // << ahora solo IDs válidos
     private final Session session;                   // login + validación de token
+    private final MerchantRateLimiter rateLimiter;   // admisión de cargos por merchant
+    private ReplicationLog replicationLog;           // null si no hay followers
 
     public FacadeGiftCard(Map<String, String> validUsers,
                           Map<String, GiftCard> giftCards,
                           Set<String> validMerchantIds,
                           Clock clock) {
+        this(validUsers, giftCards, validMerchantIds, clock, MerchantRateLimiter.unlimited());
+    }
+
+    public FacadeGiftCard(Map<String, String> validUsers,
+                          Map<String, GiftCard> giftCards,
+                          Set<String> validMerchantIds,
+                          Clock clock,
+                          MerchantRateLimiter rateLimiter) {
         this.giftCards = giftCards;
         this.validMerchantIds = validMerchantIds;
         this.session = new Session(validUsers, clock);
+        this.rateLimiter = rateLimiter;
+    }
+
+    /** Los followers de este log se siembran con {@link #snapshotOfCards()} tomado justo antes. */
+    public FacadeGiftCard replicatingTo(ReplicationLog log) {
+        this.replicationLog = log;
+        return this;
+    }
+
+    public Map<String, GiftCard> snapshotOfCards() {
+        Map<String, GiftCard> snapshot = new HashMap<>();
+        giftCards.forEach((id, card) -> snapshot.put(id, card.copy()));
+        return snapshot;
     }
 
     // ===== AUTH =====
@@ -41,6 +66,7 @@ public class FacadeGiftCard {
 
         card.claim(userId);
         giftCards.put(cardId, card);
+        if (replicationLog != null) replicationLog.append(ReplicationEvent.claim(cardId, userId, Instant.now()));
     }
 
     public BigDecimal balanceOfCardIdentifiedAs(String token, String cardId) {
@@ -63,17 +89,35 @@ public class FacadeGiftCard {
         if (!validMerchantIds.contains(idMerchant))
             throw new RuntimeException(invalidMerchantErrorDescription);
 
-        GiftCard card = cardIdentifiedAs(giftcardId);
-        if (!card.isClaimed() || !idUsuario.equals(card.ownerUserId()))
-            throw new RuntimeException(cardNotClaimedByUserErrorDescription);
+        // se rechaza antes de tocar la card: un merchant ruidoso no afecta al resto
+        rateLimiter.admit(idMerchant);
+        try {
+            GiftCard card = cardIdentifiedAs(giftcardId);
+            if (!card.isClaimed() || !idUsuario.equals(card.ownerUserId()))
+                throw new RuntimeException(cardNotClaimedByUserErrorDescription);
+
+            BigDecimal norm = monto.setScale(2, RoundingMode.UNNECESSARY);
+            if (card.balance().compareTo(norm) < 0)
+                throw new RuntimeException(notEnoughBalanceErrorDescription);
+
+            // timestamp real del sistema
+            Instant when = Instant.now();
+            card.charge(idMerchant, norm, "merchant charge", when);
+            giftCards.put(giftcardId, card);
+            // si el log se llena se detiene la réplica, nunca el cobro
+            if (replicationLog != null)
+                replicationLog.append(ReplicationEvent.charge(giftcardId, idMerchant, norm, "merchant charge", when));
+        } finally {
+            rateLimiter.release();
+        }
+    }
 
-        BigDecimal norm = monto.setScale(2, RoundingMode.UNNECESSARY);
-        if (card.balance().compareTo(norm) < 0)
-            throw new RuntimeException(notEnoughBalanceErrorDescription);
+    public long rejectedChargesOfMerchant(String idMerchant) {
+        return rateLimiter.rejectedChargesOf(idMerchant);
+    }
 
-        // timestamp real del sistema
-        card.charge(idMerchant, norm, "merchant charge", Instant.now());
-        giftCards.put(giftcardId, card);
+    public long rejectedChargesByConcurrencyLimit() {
+        return rateLimiter.rejectedByConcurrencyLimit();
     }
 
     // ===== helpers =====
@@ -0,0 +1,135 @@
+package org.udesa.giftcard.model;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Réplica de solo lectura de un {@link FacadeGiftCard}: aplica los claims y cargos del
+ * {@link ReplicationLog} del leader sobre sus propias cards y sirve balance y movimientos.
+ * Antes de cada lectura se pone al día si su atraso supera {@code maxStaleness}.
+ * Los tokens son propios del follower: el usuario hace login acá.
+ * Lecturas y {@link #catchUp()} se serializan: las cards y la sesión no son thread-safe.
+ *
+ * Si un evento no se puede aplicar o el log se detiene, la réplica queda parada con
+ * {@link #replicationError()}: se sigue sirviendo mientras el atraso no pase {@code maxStaleness}
+ * y después las lecturas fallan con {@link #replicationStoppedErrorDescription}.
+ */
+public class FollowerFacadeGiftCard {
+    public static String replicationStoppedErrorDescription = "Follower replication stopped";
+
+    private final Map<String, GiftCard> giftCards;   // copia local, mismo saldo inicial que el leader
+    private final Session session;
+    private final ReplicationLog log;
+    private final Duration maxStaleness;
+    private final Clock clock;
+
+    private long nextOffset;
+    private long appliedEvents;
+    private Instant lastSyncedAt = Instant.EPOCH;    // EPOCH = nunca estuvo al día
+    private String replicationError;                 // null mientras replica bien
+
+    private final LongAdder readsServed = new LongAdder();
+    private final long startedAtNanos;
+
+    /**
+     * {@code giftCards} es el estado previo al primer evento del log (las cards iniciales o un
+     * {@link FacadeGiftCard#snapshotOfCards()}); se copian, así que pueden ser las del leader.
+     */
+    public FollowerFacadeGiftCard(Map<String, String> validUsers,
+                                  Map<String, GiftCard> giftCards,
+                                  ReplicationLog log,
+                                  Duration maxStaleness,
+                                  Clock clock) {
+        this.giftCards = new HashMap<>();
+        giftCards.forEach((id, card) -> this.giftCards.put(id, card.copy()));
+        this.session = new Session(validUsers, clock);
+        this.log = log;
+        this.maxStaleness = maxStaleness;
+        this.clock = clock;
+        this.nextOffset = log.start();
+        this.startedAtNanos = clock.nanoTime();
+        catchUp();
+    }
+
+    // ===== AUTH =====
+    public synchronized String loginFor(String user, String pass) {
+        return session.loginFor(user, pass);
+    }
+
+    // ===== CONSULTAS =====
+    public synchronized BigDecimal balanceOfCardIdentifiedAs(String token, String cardId) {
+        String userId = session.userIdFromValidToken(token);
+        GiftCard card = mustBeMine(cardId, userId);
+        readsServed.increment();
+        return card.balance();
+    }
+
+    public synchronized List<Movement> movementsOfCardIdentifiedAs(String token, String cardId) {
+        String userId = session.userIdFromValidToken(token);
+        GiftCard card = mustBeMine(cardId, userId);
+        readsServed.increment();
+        return card.movements();
+    }
+
+    // ===== REPLICACIÓN =====
+    public synchronized void catchUp() {
+        if (replicationError != null) return;
+        Instant observedAt = clock.nowInstant();   // antes de leer el fin: cota conservadora
+        boolean stopped = log.hasStopped();        // antes del fin: si ya paró, el fin es el definitivo
+        try {
+            // se avanza de a un evento: si uno falla, los ya aplicados no se vuelven a aplicar
+            log.readRecordsFrom(nextOffset, (event, next) -> {
+                event.applyTo(giftCards);
+                nextOffset = next;
+                appliedEvents++;
+            });
+        } catch (RuntimeException e) {
+            replicationError = e.getMessage();
+            return;
+        }
+        if (stopped) {
+            replicationError = ReplicationLog.LogStopped;
+            return;
+        }
+        lastSyncedAt = observedAt;
+    }
+
+    /** Causa por la que la réplica se detuvo, o null si sigue al día. */
+    public synchronized String replicationError() {
+        return replicationError;
+    }
+
+    /** Tiempo desde la última vez que el follower estuvo al día con el leader. */
+    public synchronized Duration staleness() {
+        return Duration.between(lastSyncedAt, clock.nowInstant());
+    }
+
+    public synchronized long replicationLagInEvents() {
+        return log.eventCount() - appliedEvents;
+    }
+
+    public long readsServed() { return readsServed.sum(); }
+
+    public double readsPerSecond() {
+        long elapsed = clock.nanoTime() - startedAtNanos;
+        return elapsed <= 0 ? 0 : readsServed.sum() * 1_000_000_000d / elapsed;
+    }
+
+    // ===== helpers =====
+    private GiftCard mustBeMine(String cardId, String userId) {
+        if (staleness().compareTo(maxStaleness) > 0) {
+            catchUp();
+            if (replicationError != null) throw new RuntimeException(replicationStoppedErrorDescription);
+        }
+        GiftCard card = giftCards.get(cardId);
+        if (card == null) throw new RuntimeException(FacadeGiftCard.invalidCardIdErrorDescription);
+        if (!card.isClaimed() || !userId.equals(card.ownerUserId()))
+            throw new RuntimeException(FacadeGiftCard.cardNotClaimedByUserErrorDescription);
+        return card;
+    }
+}
@@ -25,6 +25,14 @@ public final class GiftCard {
         this.balance = initial;
     }
 
+    /** Copia independiente, con el mismo dueño, saldo y movimientos. */
+    public GiftCard copy() {
+        GiftCard copy = new GiftCard(id, balance);
+        copy.ownerUserId = ownerUserId;
+        copy.movements.addAll(movements);
+        return copy;
+    }
+
     private static BigDecimal normalize(BigDecimal x) {
         return x.setScale(2, RoundingMode.UNNECESSARY);
     }
@@ -0,0 +1,127 @@
+package org.udesa.giftcard.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Control de admisión de cargos: un token bucket lock-free por merchant + límite global opcional.
+ * El facade llama a {@link #admit} solo con merchants ya validados contra {@code validMerchantIds},
+ * así que cada uno recibe su bucket la primera vez que cobra y no hay merchant válido sin límite.
+ * El límite global cuenta cargos en curso: solo tiene efecto si el facade se llama desde varios
+ * threads a la vez, lo que exige envolverlo de forma thread-safe (el facade en sí no lo es).
+ */
+public final class MerchantRateLimiter {
+    public static final String RateLimitExceeded = "Merchant rate limit exceeded";
+    public static final String TooManyConcurrentCharges = "Too many concurrent merchant charges";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();   // merchantId -> bucket
+    private final long interval;                 // nanos por permiso; 0 = sin límite por merchant
+    private final long burst;
+    private final int maxConcurrentCharges;      // 0 = sin límite global
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedByConcurrency = new LongAdder();
+    private final Clock clock;
+
+    public static MerchantRateLimiter unlimited() {
+        return new MerchantRateLimiter(0, 0, 0, new Clock());
+    }
+
+    public static MerchantRateLimiter allowing(long permitsPerSecond,
+                                               long burst,
+                                               int maxConcurrentCharges,
+                                               Clock clock) {
+        if (permitsPerSecond <= 0 || permitsPerSecond > NANOS_PER_SECOND)
+            throw new IllegalArgumentException("permitsPerSecond out of range: " + permitsPerSecond);
+        if (burst <= 0) throw new IllegalArgumentException("burst must be positive: " + burst);
+        if (maxConcurrentCharges < 0)
+            throw new IllegalArgumentException("maxConcurrentCharges must not be negative: " + maxConcurrentCharges);
+
+        return new MerchantRateLimiter(NANOS_PER_SECOND / permitsPerSecond, burst, maxConcurrentCharges, clock);
+    }
+
+    private MerchantRateLimiter(long interval, long burst, int maxConcurrentCharges, Clock clock) {
+        this.interval = interval;
+        this.burst = burst;
+        this.maxConcurrentCharges = maxConcurrentCharges;
+        this.clock = clock;
+    }
+
+    /** Si admite, ocupa un lugar del límite global que se devuelve con {@link #release()}. */
+    public void admit(String merchantId) {
+        // primero el lugar global: un rechazo por carga ajena no le gasta tokens al merchant
+        if (maxConcurrentCharges > 0 && inFlight.incrementAndGet() > maxConcurrentCharges) {
+            inFlight.decrementAndGet();
+            rejectedByConcurrency.increment();
+            throw rejection(TooManyConcurrentCharges);
+        }
+        if (interval == 0) return;
+        Bucket bucket = bucketOf(merchantId);
+        if (!bucket.tryAcquire(clock.nanoTime())) {
+            release();
+            bucket.rejected.increment();
+            throw rejection(RateLimitExceeded);
+        }
+    }
+
+    public void release() {
+        if (maxConcurrentCharges > 0) inFlight.decrementAndGet();
+    }
+
+    public long rejectedChargesOf(String merchantId) {
+        Bucket bucket = buckets.get(merchantId);
+        return bucket == null ? 0 : bucket.rejected.sum();
+    }
+
+    public long rejectedByConcurrencyLimit() { return rejectedByConcurrency.sum(); }
+
+    public int chargesInFlight() { return inFlight.get(); }
+
+    private static RuntimeException rejection(String description) {
+        return new Rejection(description);
+    }
+
+    // sin stack trace: el rechazo es el camino caliente de un merchant que inunda y armarlo cuesta microsegundos
+    private static final class Rejection extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Rejection(String description) {
+            super(description, null, false, false);
+        }
+    }
+
+    private Bucket bucketOf(String merchantId) {
+        Bucket bucket = buckets.get(merchantId);
+        return bucket != null ? bucket
+                : buckets.computeIfAbsent(merchantId, id -> new Bucket(interval, burst, clock.nanoTime()));
+    }
+
+    // GCRA: equivale a un token bucket pero guarda un único long, así alcanza con un CAS
+    private static final class Bucket {
+        private final long interval;     // nanos por permiso
+        private final long tolerance;    // interval * burst
+        private final AtomicLong theoreticalArrival;
+        private final LongAdder rejected = new LongAdder();
+
+        Bucket(long interval, long burst, long start) {
+            this.interval = interval;
+            this.tolerance = burst > Long.MAX_VALUE / interval ? Long.MAX_VALUE : interval * burst;
+            this.theoreticalArrival = new AtomicLong(start);
+        }
+
+        boolean tryAcquire(long now) {
+            long tat, next;
+            do {
+                tat = theoreticalArrival.get();
+                long base = tat - now > 0 ? tat : now;
+                next = base + interval;
+                if (next - now > tolerance) return false;
+            } while (!theoreticalArrival.compareAndSet(tat, next));
+            return true;
+        }
+    }
+}
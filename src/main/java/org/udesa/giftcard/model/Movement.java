@@ -14,6 +14,11 @@ public final class Movement {
     private Movement(Instant when, String merchantId, BigDecimal amount, String description) {
         this.when = when; this.merchantId = merchantId; this.amount = amount; this.description = description;
     }
+
+    public Instant when() { return when; }
+    public String merchantId() { return merchantId; }
+    public BigDecimal amount() { return amount; }
+    public String description() { return description; }
 }
 
 
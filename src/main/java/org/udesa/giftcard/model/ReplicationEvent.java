@@ -0,0 +1,48 @@
+package org.udesa.giftcard.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/** Evento que el leader publica en el {@link ReplicationLog}: un claim o un cargo ya aceptado. */
+public final class ReplicationEvent {
+    static final byte CLAIM = 1;
+    static final byte CHARGE = 2;
+
+    private final byte type;
+    private final String cardId;
+    private final String userOrMerchantId;   // userId en CLAIM, merchantId en CHARGE
+    private final BigDecimal amount;         // null en CLAIM
+    private final String description;        // null en CLAIM
+    private final Instant when;
+
+    public static ReplicationEvent claim(String cardId, String userId, Instant when) {
+        return new ReplicationEvent(CLAIM, cardId, userId, null, null, when);
+    }
+
+    public static ReplicationEvent charge(String cardId, String merchantId, BigDecimal amount,
+                                          String description, Instant when) {
+        return new ReplicationEvent(CHARGE, cardId, merchantId, amount, description, when);
+    }
+
+    ReplicationEvent(byte type, String cardId, String userOrMerchantId,
+                     BigDecimal amount, String description, Instant when) {
+        this.type = type; this.cardId = cardId; this.userOrMerchantId = userOrMerchantId;
+        this.amount = amount; this.description = description; this.when = when;
+    }
+
+    /** Reproduce sobre las cards del follower lo mismo que hizo el leader. */
+    public void applyTo(Map<String, GiftCard> giftCards) {
+        GiftCard card = giftCards.get(cardId);
+        if (card == null) throw new RuntimeException(FacadeGiftCard.invalidCardIdErrorDescription);
+        if (type == CLAIM) card.claim(userOrMerchantId);
+        else card.charge(userOrMerchantId, amount, description, when);
+    }
+
+    byte type() { return type; }
+    String cardId() { return cardId; }
+    String userOrMerchantId() { return userOrMerchantId; }
+    BigDecimal amount() { return amount; }
+    String description() { return description; }
+    public Instant when() { return when; }
+}
@@ -0,0 +1,186 @@
+package org.udesa.giftcard.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Log append-only de {@link ReplicationEvent}s con un único escritor (el leader) y muchos lectores.
+ * Puede vivir en memoria (followers en el mismo proceso) o en un archivo mapeado en memoria
+ * (followers en otro proceso local que abren el mismo archivo).
+ *
+ * Layout: [0..8) fin confirmado, [8..16) cantidad de eventos, [16..24) detenido (0/1), luego
+ * registros [int largo][payload]. El fin se publica con release después de escribir el registro,
+ * así un lector nunca ve uno a medias.
+ *
+ * El log tiene tamaño fijo y no rota. Si un evento no entra, el log se detiene: no acepta más
+ * eventos y los followers lo ven como error de replicación, pero el leader sigue cobrando. Para
+ * volver a replicar se arranca un log nuevo con followers sembrados desde
+ * {@link FacadeGiftCard#snapshotOfCards()}.
+ */
+public final class ReplicationLog {
+    public static final String LogStopped = "Replication log stopped";
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int END_OFFSET = 0;
+    private static final int COUNT_OFFSET = 8;
+    private static final int STOPPED_OFFSET = 16;
+    static final int HEADER_SIZE = 24;
+    private static final int PAYLOAD_FIXED = 1 + 8 + 4 + 4 * 2;   // tipo, instante, largos de los 4 strings
+
+    private final ByteBuffer buffer;
+
+    public static ReplicationLog inMemory(int capacity) {
+        return initialized(ByteBuffer.allocateDirect(capacity));
+    }
+
+    /** Lo crea (o lo trunca) el leader. */
+    public static ReplicationLog createAt(Path file, int capacity) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return initialized(channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Lo abre un follower, de solo lectura, sobre un archivo ya creado por el leader. */
+    public static ReplicationLog openAt(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ReplicationLog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ReplicationLog initialized(ByteBuffer buffer) {
+        ReplicationLog log = new ReplicationLog(buffer);
+        LONGS.setRelease(buffer, COUNT_OFFSET, 0L);
+        LONGS.setRelease(buffer, STOPPED_OFFSET, 0L);
+        LONGS.setRelease(buffer, END_OFFSET, (long) HEADER_SIZE);
+        return log;
+    }
+
+    private ReplicationLog(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+    }
+
+    // ===== escritor (leader) =====
+
+    /**
+     * Nunca falla: si el evento no entra (o algún campo es demasiado largo) el log se detiene y
+     * devuelve false. El leader ya aplicó el cambio y no debe deshacerlo por un problema de réplica.
+     */
+    public boolean append(ReplicationEvent event) {
+        if (hasStopped()) return false;
+        byte[] cardId = utf8(event.cardId());
+        byte[] party = utf8(event.userOrMerchantId());
+        byte[] amount = utf8(amountOf(event));
+        byte[] description = utf8(descriptionOf(event));
+        int payload = PAYLOAD_FIXED + cardId.length + party.length + amount.length + description.length;
+
+        int pos = (int) end();
+        if (Math.max(Math.max(cardId.length, party.length), Math.max(amount.length, description.length)) > Short.MAX_VALUE
+                || (long) pos + 4 + payload > buffer.capacity()) {
+            LONGS.setRelease(buffer, STOPPED_OFFSET, 1L);
+            return false;
+        }
+
+        buffer.putInt(pos, payload);                             pos += 4;
+        buffer.put(pos, event.type());                           pos += 1;
+        buffer.putLong(pos, event.when().getEpochSecond());      pos += 8;
+        buffer.putInt(pos, event.when().getNano());              pos += 4;
+        pos = putBytes(pos, cardId);
+        pos = putBytes(pos, party);
+        pos = putBytes(pos, amount);
+        pos = putBytes(pos, description);
+
+        LONGS.setRelease(buffer, COUNT_OFFSET, eventCount() + 1);
+        LONGS.setRelease(buffer, END_OFFSET, (long) pos);
+        return true;
+    }
+
+    // ===== lectores (followers) =====
+    public long end() {
+        return (long) LONGS.getAcquire(buffer, END_OFFSET);
+    }
+
+    public long eventCount() {
+        return (long) LONGS.getAcquire(buffer, COUNT_OFFSET);
+    }
+
+    /** Una vez detenido el fin ya no cambia: quien lo lee después de ver esto tiene todos los eventos. */
+    public boolean hasStopped() {
+        return (long) LONGS.getAcquire(buffer, STOPPED_OFFSET) != 0;
+    }
+
+    public long start() { return HEADER_SIZE; }
+
+    /** Entrega los eventos confirmados a partir de {@code from} y devuelve el offset siguiente. */
+    public long readFrom(long from, Consumer<ReplicationEvent> consumer) {
+        return readRecordsFrom(from, (event, next) -> consumer.accept(event));
+    }
+
+    /** Como {@link #readFrom}, pero informa el offset siguiente a cada registro para avanzar de a uno. */
+    public long readRecordsFrom(long from, RecordConsumer consumer) {
+        long end = end();
+        int pos = (int) from;
+        while (pos < end) {
+            int next = pos + 4 + buffer.getInt(pos);
+            consumer.accept(eventAt(pos + 4), next);
+            pos = next;
+        }
+        return pos;
+    }
+
+    public interface RecordConsumer {
+        void accept(ReplicationEvent event, long nextOffset);
+    }
+
+    private ReplicationEvent eventAt(int pos) {
+        byte type = buffer.get(pos);                                                  pos += 1;
+        Instant when = Instant.ofEpochSecond(buffer.getLong(pos), buffer.getInt(pos + 8)); pos += 12;
+        String cardId = stringAt(pos);                                                pos += 2 + buffer.getShort(pos);
+        String party = stringAt(pos);                                                 pos += 2 + buffer.getShort(pos);
+        String amount = stringAt(pos);                                                pos += 2 + buffer.getShort(pos);
+        String description = stringAt(pos);
+        return type == ReplicationEvent.CLAIM
+                ? ReplicationEvent.claim(cardId, party, when)
+                : ReplicationEvent.charge(cardId, party, new BigDecimal(amount), description, when);
+    }
+
+    // ===== helpers =====
+    private int putBytes(int pos, byte[] bytes) {
+        buffer.putShort(pos, (short) bytes.length);
+        buffer.put(pos + 2, bytes);
+        return pos + 2 + bytes.length;
+    }
+
+    private String stringAt(int pos) {
+        byte[] bytes = new byte[buffer.getShort(pos)];
+        buffer.get(pos + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String amountOf(ReplicationEvent event) {
+        return event.amount() == null ? "" : event.amount().toPlainString();
+    }
+
+    private static String descriptionOf(ReplicationEvent event) {
+        return event.description() == null ? "" : event.description();
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -42,7 +42,7 @@ public class Session {
     }
 
     private void checkValidUser(String user, String pass) {
-        if (!Objects.equals(pass, validUsers.get(user))) {
+        if (pass == null || !Objects.equals(pass, validUsers.get(user))) {
             throw new RuntimeException(invalidUserAndOrPasswordErrorDescription);
         }
     }
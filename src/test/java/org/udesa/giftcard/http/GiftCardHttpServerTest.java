@@ -0,0 +1,286 @@
+package org.udesa.giftcard.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.udesa.giftcard.model.Clock;
+import org.udesa.giftcard.model.FacadeGiftCard;
+import org.udesa.giftcard.model.GiftCard;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GiftCardHttpServerTest {
+
+    private static final String MERCHANT_KEY = "m001-secret";
+
+    private GiftCardHttpServer server;
+    private HttpClient client;
+    private String base;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, String> users = new HashMap<>(Map.of("alice", "pwd"));
+        Map<String, GiftCard> cards = new HashMap<>();
+        cards.put("CARD-1", GiftCard.identifiedWithBalance("CARD-1", new BigDecimal("100000.00")));
+        FacadeGiftCard facade = new FacadeGiftCard(users, cards, Set.of("M-001"), new Clock());
+
+        server = GiftCardHttpServer.startedOn(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), facade,
+                Map.of("M-001", MERCHANT_KEY));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        base = "http://127.0.0.1:" + server.port();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test public void test01LoginDevuelveUnToken() throws Exception {
+        HttpResponse<String> response = post("/login", "user=alice&pass=pwd");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"token\":\""));
+    }
+
+    @Test public void test02LoginInvalidoDevuelve401() throws Exception {
+        HttpResponse<String> response = post("/login", "user=alice&pass=WRONG");
+        assertEquals(401, response.statusCode());
+        assertEquals("{\"error\":\"" + FacadeGiftCard.invalidUserAndOrPasswordErrorDescription + "\"}", response.body());
+    }
+
+    @Test public void test03ClaimCargoBalanceYMovements() throws Exception {
+        String token = login();
+        assertEquals(200, post("/cards/CARD-1/claim", "", "Bearer " + token).statusCode());
+        assertEquals(200, charge("user=alice&card=CARD-1&amount=30.05").statusCode());
+
+        assertEquals("{\"balance\":99969.95}", get("/cards/CARD-1/balance", token).body());
+        String movements = get("/cards/CARD-1/movements", token).body();
+        assertTrue(movements.startsWith("{\"movements\":[{\"when\":\""));
+        assertTrue(movements.endsWith("\"merchantId\":\"M-001\",\"amount\":30.05,\"description\":\"merchant charge\"}]}"));
+    }
+
+    @Test public void test04ErroresDelFacadeSeMapeanAStatus() throws Exception {
+        String token = login();
+        assertEquals(404, get("/cards/NO-CARD/balance", token).statusCode());
+        assertEquals(400, get("/cards/CARD-1/balance", token).statusCode());
+        assertEquals(401, get("/cards/CARD-1/balance", "bogus").statusCode());
+        assertEquals(400, charge("user=alice&card=CARD-1&amount=1.001").statusCode());
+        assertEquals(404, get("/nowhere").statusCode());
+        assertEquals(405, get("/login").statusCode());
+    }
+
+    @Test public void test05LoginSinPasswordOVaciaNoEmiteToken() throws Exception {
+        assertEquals(400, post("/login", "user=ghost").statusCode());
+        assertEquals(400, post("/login", "user=alice&pass=").statusCode());
+        assertEquals(400, post("/login", "").statusCode());
+        assertEquals("{\"error\":\"Missing parameter: pass\"}", post("/login", "user=ghost").body());
+    }
+
+    @Test public void test06ClaimYConsultasSinTokenDevuelven401() throws Exception {
+        String token = login();
+        assertEquals(401, post("/cards/CARD-1/claim", "").statusCode());
+        assertEquals(401, get("/cards/CARD-1/balance").statusCode());
+        assertEquals(401, get("/cards/CARD-1/movements", "").statusCode());
+        // el token en la URL ya no se acepta
+        assertEquals(401, get("/cards/CARD-1/balance?token=" + token).statusCode());
+    }
+
+    @Test public void test07CargoSinClaveDelMerchantDevuelve401() throws Exception {
+        String token = login();
+        post("/cards/CARD-1/claim", "", "Bearer " + token);
+
+        assertEquals(401, post("/merchants/M-001/charges", "user=alice&card=CARD-1&amount=1.00").statusCode());
+        assertEquals(401, post("/merchants/M-001/charges", "user=alice&card=CARD-1&amount=1.00", "Bearer wrong").statusCode());
+        assertEquals(401, post("/merchants/M-002/charges", "user=alice&card=CARD-1&amount=1.00", "Bearer " + MERCHANT_KEY).statusCode());
+        assertEquals("{\"balance\":100000.00}", get("/cards/CARD-1/balance", token).body());
+    }
+
+    @Test public void test08VariosRequestsPipelineadosEnUnaConexionKeepAlive() throws Exception {
+        String token = login();
+        try (RawConnection connection = new RawConnection(server.port())) {
+            connection.send(postRequest("/cards/CARD-1/claim", "", "Bearer " + token)
+                    + chargeRequest("1.50")
+                    + getRequest("/cards/CARD-1/balance", token));
+
+            assertEquals("{\"ok\":true}", connection.readBody());
+            assertEquals("{\"ok\":true}", connection.readBody());
+            assertEquals("{\"balance\":99998.50}", connection.readBody());
+
+            // la misma conexión sigue abierta para el siguiente request
+            connection.send(getRequest("/cards/CARD-1/balance", token));
+            assertEquals("{\"balance\":99998.50}", connection.readBody());
+        }
+    }
+
+    @Test public void test09MontosInvalidosSeRechazanAntesDelFacade() throws Exception {
+        String token = login();
+        post("/cards/CARD-1/claim", "", "Bearer " + token);
+
+        for (String amount : List.of("-5.00", "0", "0.00", "1.001", "1E10000000", "1E100000000",
+                "9999999999999.00", "abc", "1".repeat(40))) {
+            HttpResponse<String> response = charge("user=alice&card=CARD-1&amount=" + amount);
+            assertEquals(400, response.statusCode(), amount);
+            assertEquals("{\"error\":\"" + GiftCardHttpServer.InvalidAmount + "\"}", response.body(), amount);
+        }
+        assertEquals(200, charge("user=alice&card=CARD-1&amount=1.000").statusCode());
+        assertEquals(200, charge("user=alice&card=CARD-1&amount=1E1").statusCode());
+        assertEquals("{\"balance\":99989.00}", get("/cards/CARD-1/balance", token).body());
+    }
+
+    // Generador de carga por loopback: conexiones keep-alive crudas, reporta p50/p99 y requests por segundo
+    @Test public void test10CargaPorLoopback() throws Exception {
+        String token = login();
+        post("/cards/CARD-1/claim", "", "Bearer " + token);
+        String balance = getRequest("/cards/CARD-1/balance", token);
+        String charge = chargeRequest("0.01");
+
+        int clients = 16;
+        int requestsPerClient = 500;
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> results = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            results.add(pool.submit(() -> {
+                long[] latencies = new long[requestsPerClient];
+                try (RawConnection connection = new RawConnection(server.port())) {
+                    for (int i = 0; i < requestsPerClient; i++) {
+                        long t0 = System.nanoTime();
+                        connection.send(i % 4 == 0 ? charge : balance);
+                        connection.readBody();
+                        latencies[i] = System.nanoTime() - t0;
+                        assertEquals(200, connection.lastStatus);
+                    }
+                }
+                return latencies;
+            }));
+        }
+        long[] all = new long[clients * requestsPerClient];
+        for (int c = 0; c < clients; c++)
+            System.arraycopy(results.get(c).get(), 0, all, c * requestsPerClient, requestsPerClient);
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        Arrays.sort(all);
+        System.out.printf("http loopback: %d clients, %d requests, p50=%dus p99=%dus, %.0f req/s%n",
+                clients, all.length, all[all.length / 2] / 1_000, all[all.length * 99 / 100] / 1_000,
+                all.length * 1_000_000_000d / elapsed);
+        long charges = (long) clients * ((requestsPerClient + 3) / 4);
+        assertEquals("{\"balance\":" + new BigDecimal("100000.00")
+                        .subtract(new BigDecimal("0.01").multiply(BigDecimal.valueOf(charges))) + "}",
+                get("/cards/CARD-1/balance", token).body());
+    }
+
+    // ===== helpers =====
+    private String login() throws Exception {
+        String body = post("/login", "user=alice&pass=pwd").body();
+        return body.substring("{\"token\":\"".length(), body.length() - 2);
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(base + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path, String token) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(base + path))
+                        .header("Authorization", "Bearer " + token).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String form) throws IOException, InterruptedException {
+        return post(path, form, null);
+    }
+
+    private HttpResponse<String> post(String path, String form, String authorization)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (authorization != null) request.header("Authorization", authorization);
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> charge(String form) throws IOException, InterruptedException {
+        return post("/merchants/M-001/charges", form, "Bearer " + MERCHANT_KEY);
+    }
+
+    private static String chargeRequest(String amount) {
+        return postRequest("/merchants/M-001/charges", "user=alice&card=CARD-1&amount=" + amount, "Bearer " + MERCHANT_KEY);
+    }
+
+    private static String getRequest(String path, String token) {
+        return "GET " + path + " HTTP/1.1\r\nHost: localhost\r\nAuthorization: Bearer " + token + "\r\n\r\n";
+    }
+
+    private static String postRequest(String path, String form, String authorization) {
+        return "POST " + path + " HTTP/1.1\r\nHost: localhost\r\n"
+                + "Content-Type: application/x-www-form-urlencoded\r\n"
+                + (authorization == null ? "" : "Authorization: " + authorization + "\r\n")
+                + "Content-Length: " + form.getBytes(StandardCharsets.UTF_8).length + "\r\n\r\n" + form;
+    }
+
+    // ===== cliente HTTP/1.1 mínimo sobre un socket: keep-alive y pipelining explícitos =====
+    static final class RawConnection implements AutoCloseable {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        int lastStatus;
+
+        RawConnection(int port) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(5_000);
+            in = new BufferedInputStream(socket.getInputStream());
+            out = socket.getOutputStream();
+        }
+
+        void send(String requests) throws IOException {
+            out.write(requests.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        }
+
+        String readBody() throws IOException {
+            String statusLine = readLine();
+            lastStatus = Integer.parseInt(statusLine.split(" ")[1]);
+            int length = 0;
+            for (String header = readLine(); !header.isEmpty(); header = readLine())
+                if (header.toLowerCase().startsWith("content-length:"))
+                    length = Integer.parseInt(header.substring("content-length:".length()).trim());
+            return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (int c = in.read(); c != '\n'; c = in.read()) {
+                if (c < 0) throw new EOFException("connection closed");
+                if (c != '\r') line.append((char) c);
+            }
+            return line.toString();
+        }
+
+        @Override public void close() throws IOException { socket.close(); }
+    }
+}
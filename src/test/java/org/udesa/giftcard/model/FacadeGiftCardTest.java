@@ -141,4 +141,32 @@ public class FacadeGiftCardTest {
 
         assertEquals(1, movements.size());
     }
+
+    @Test public void test11SiElLogDeReplicacionSeLlenaLosCargosSiguenAplicandose() {
+        ReplicationLog log = ReplicationLog.inMemory(120);
+        facade.replicatingTo(log);
+        String token = facade.loginFor("alice", "pwd");
+        facade.claimCardIdentifiedAs(token, "CARD-1");
+        facade.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("1.00"));
+
+        facade.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("1.00"));
+        facade.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("1.00"));
+
+        assertTrue(log.hasStopped());
+        assertEquals(2, log.eventCount());
+        assertEquals(new BigDecimal("97.00"), giftCards.get("CARD-1").balance());
+        assertEquals(3, giftCards.get("CARD-1").movements().size());
+    }
+
+    @Test public void test12SnapshotDeCardsEsIndependienteDelFacade() {
+        String token = facade.loginFor("alice", "pwd");
+        facade.claimCardIdentifiedAs(token, "CARD-1");
+        Map<String, GiftCard> snapshot = facade.snapshotOfCards();
+
+        facade.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("10.00"));
+
+        assertEquals("alice", snapshot.get("CARD-1").ownerUserId());
+        assertEquals(new BigDecimal("100.00"), snapshot.get("CARD-1").balance());
+        assertEquals(0, snapshot.get("CARD-1").movements().size());
+    }
 }
@@ -0,0 +1,210 @@
+package org.udesa.giftcard.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FollowerFacadeGiftCardTest {
+
+    private TestClock clock;
+    private ReplicationLog log;
+    private FacadeGiftCard leader;
+    private FollowerFacadeGiftCard follower;
+    private String leaderToken;
+    private String followerToken;
+
+    @BeforeEach
+    void setUp() {
+        clock = TestClock.fixedAt(Instant.parse("2025-01-01T12:00:00Z"));
+        log = ReplicationLog.inMemory(64 * 1024);
+
+        leader = new FacadeGiftCard(users(), cards(), Set.of("M-001"), clock).replicatingTo(log);
+        follower = new FollowerFacadeGiftCard(users(), cards(), log, Duration.ofSeconds(1), clock);
+
+        leaderToken = leader.loginFor("alice", "pwd");
+        followerToken = follower.loginFor("alice", "pwd");
+    }
+
+    @Test public void test01ElFollowerVeElClaimYLosCargosDelLeader() {
+        leader.claimCardIdentifiedAs(leaderToken, "CARD-1");
+        leader.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("30.00"));
+
+        follower.catchUp();
+
+        assertEquals(new BigDecimal("70.00"), follower.balanceOfCardIdentifiedAs(followerToken, "CARD-1"));
+        assertEquals(1, follower.movementsOfCardIdentifiedAs(followerToken, "CARD-1").size());
+        assertEquals(0, follower.replicationLagInEvents());
+    }
+
+    @Test public void test02DentroDeLaStalenessPermitidaSirveElEstadoLocal() {
+        leader.claimCardIdentifiedAs(leaderToken, "CARD-1");
+        follower.catchUp();
+
+        leader.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("30.00"));
+        assertEquals(1, follower.replicationLagInEvents());
+        assertEquals(new BigDecimal("100.00"), follower.balanceOfCardIdentifiedAs(followerToken, "CARD-1"));
+    }
+
+    @Test public void test03PasadaLaStalenessPermitidaSePoneAlDiaAntesDeLeer() {
+        leader.claimCardIdentifiedAs(leaderToken, "CARD-1");
+        follower.catchUp();
+        leader.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("30.00"));
+
+        clock.advanceSeconds(2);
+        assertEquals(Duration.ofSeconds(2), follower.staleness());
+        assertEquals(new BigDecimal("70.00"), follower.balanceOfCardIdentifiedAs(followerToken, "CARD-1"));
+        assertEquals(Duration.ZERO, follower.staleness());
+        assertEquals(0, follower.replicationLagInEvents());
+    }
+
+    @Test public void test04ElFollowerValidaQueLaCardSeaDelUsuario() {
+        follower.catchUp();
+        assertThrowsLike(
+                () -> follower.balanceOfCardIdentifiedAs(followerToken, "CARD-1"),
+                FacadeGiftCard.cardNotClaimedByUserErrorDescription
+        );
+        assertThrowsLike(
+                () -> follower.balanceOfCardIdentifiedAs(followerToken, "NO-CARD"),
+                FacadeGiftCard.invalidCardIdErrorDescription
+        );
+    }
+
+    @Test public void test05CuentaLasLecturasServidas() {
+        leader.claimCardIdentifiedAs(leaderToken, "CARD-1");
+        follower.catchUp();
+
+        follower.balanceOfCardIdentifiedAs(followerToken, "CARD-1");
+        follower.movementsOfCardIdentifiedAs(followerToken, "CARD-1");
+        clock.advanceSeconds(1);
+
+        assertEquals(2, follower.readsServed());
+        assertEquals(2.0, follower.readsPerSecond());
+    }
+
+    @Test public void test06UnFollowerNuevoArrancaAlDia() {
+        leader.claimCardIdentifiedAs(leaderToken, "CARD-2");
+        leader.chargeNotifiedByMerchant("M-001", "alice", "CARD-2", new BigDecimal("5.00"));
+
+        FollowerFacadeGiftCard late = new FollowerFacadeGiftCard(users(), cards(), log, Duration.ZERO, clock);
+        String token = late.loginFor("alice", "pwd");
+
+        assertEquals(new BigDecimal("45.00"), late.balanceOfCardIdentifiedAs(token, "CARD-2"));
+    }
+
+    @Test public void test07SiUnEventoFallaLaReplicaSeDetieneSinRepetirLosAplicados() {
+        Map<String, GiftCard> onlyCard1 = cards();
+        onlyCard1.remove("CARD-2");
+        FollowerFacadeGiftCard partial = new FollowerFacadeGiftCard(users(), onlyCard1, log, Duration.ofSeconds(1), clock);
+        String token = partial.loginFor("alice", "pwd");
+
+        leader.claimCardIdentifiedAs(leaderToken, "CARD-1");
+        leader.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("30.00"));
+        leader.claimCardIdentifiedAs(leaderToken, "CARD-2");   // el follower no tiene esta card
+
+        partial.catchUp();
+        partial.catchUp();
+
+        assertEquals(FacadeGiftCard.invalidCardIdErrorDescription, partial.replicationError());
+        assertEquals(1, partial.replicationLagInEvents());
+        // dentro de la staleness permitida sirve lo último aplicado, una sola vez
+        assertEquals(new BigDecimal("70.00"), partial.balanceOfCardIdentifiedAs(token, "CARD-1"));
+        assertEquals(1, partial.movementsOfCardIdentifiedAs(token, "CARD-1").size());
+
+        // pasado el límite no puede ponerse al día: error de replicación, no de la card
+        clock.advanceSeconds(2);
+        assertEquals(Duration.ofSeconds(2), partial.staleness());
+        assertThrowsLike(
+                () -> partial.balanceOfCardIdentifiedAs(token, "CARD-1"),
+                FollowerFacadeGiftCard.replicationStoppedErrorDescription
+        );
+    }
+
+    @Test public void test08SiElLogSeDetieneElLeaderSigueYElFollowerLoReporta() {
+        ReplicationLog small = ReplicationLog.inMemory(200);
+        FacadeGiftCard smallLeader = new FacadeGiftCard(users(), cards(), Set.of("M-001"), clock).replicatingTo(small);
+        FollowerFacadeGiftCard smallFollower = new FollowerFacadeGiftCard(users(), cards(), small, Duration.ZERO, clock);
+        String token = smallLeader.loginFor("alice", "pwd");
+        String followerToken = smallFollower.loginFor("alice", "pwd");
+
+        smallLeader.claimCardIdentifiedAs(token, "CARD-1");
+        for (int i = 0; i < 10; i++)
+            smallLeader.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("1.00"));
+
+        assertEquals(new BigDecimal("90.00"), smallLeader.balanceOfCardIdentifiedAs(token, "CARD-1"));
+        assertTrue(small.hasStopped());
+
+        smallFollower.catchUp();
+        assertEquals(ReplicationLog.LogStopped, smallFollower.replicationError());
+        clock.advanceSeconds(1);
+        assertThrowsLike(
+                () -> smallFollower.balanceOfCardIdentifiedAs(followerToken, "CARD-1"),
+                FollowerFacadeGiftCard.replicationStoppedErrorDescription
+        );
+
+        // se retoma con un log nuevo y un follower sembrado desde el snapshot del leader
+        ReplicationLog fresh = ReplicationLog.inMemory(64 * 1024);
+        Map<String, GiftCard> snapshot = smallLeader.snapshotOfCards();
+        smallLeader.replicatingTo(fresh);
+        FollowerFacadeGiftCard reseeded = new FollowerFacadeGiftCard(users(), snapshot, fresh, Duration.ZERO, clock);
+        smallLeader.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("1.00"));
+
+        reseeded.catchUp();
+        String reseededToken = reseeded.loginFor("alice", "pwd");
+        assertEquals(new BigDecimal("89.00"), reseeded.balanceOfCardIdentifiedAs(reseededToken, "CARD-1"));
+        assertNull(reseeded.replicationError());
+    }
+
+    @Test public void test09UnFollowerConLasMismasCardsQueElLeaderNoAplicaDosVeces() {
+        Map<String, GiftCard> shared = cards();
+        ReplicationLog sharedLog = ReplicationLog.inMemory(64 * 1024);
+        FacadeGiftCard sharedLeader = new FacadeGiftCard(users(), shared, Set.of("M-001"), clock).replicatingTo(sharedLog);
+        FollowerFacadeGiftCard sameCards = new FollowerFacadeGiftCard(users(), shared, sharedLog, Duration.ZERO, clock);
+
+        String token = sharedLeader.loginFor("alice", "pwd");
+        sharedLeader.claimCardIdentifiedAs(token, "CARD-1");
+        sharedLeader.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("30.00"));
+        sameCards.catchUp();
+
+        String followerToken = sameCards.loginFor("alice", "pwd");
+        assertEquals(new BigDecimal("70.00"), sameCards.balanceOfCardIdentifiedAs(followerToken, "CARD-1"));
+        assertEquals(new BigDecimal("70.00"), shared.get("CARD-1").balance());
+        assertNull(sameCards.replicationError());
+    }
+
+    // ===== helpers =====
+    private static Map<String, String> users() {
+        return new HashMap<>(Map.of("alice", "pwd", "bob", "secret"));
+    }
+
+    private static Map<String, GiftCard> cards() {
+        Map<String, GiftCard> cards = new HashMap<>();
+        cards.put("CARD-1", GiftCard.identifiedWithBalance("CARD-1", new BigDecimal("100.00")));
+        cards.put("CARD-2", GiftCard.identifiedWithBalance("CARD-2", new BigDecimal("50.00")));
+        return cards;
+    }
+
+    private void assertThrowsLike(Executable executable, String message) {
+        assertEquals(message, assertThrows(Exception.class, executable).getMessage());
+    }
+
+    // ===== Test clock seteable =====
+    static class TestClock extends Clock {
+        private Instant now;
+
+        static TestClock fixedAt(Instant instant) { return new TestClock(instant); }
+        TestClock(Instant instant) { this.now = instant; }
+
+        @Override public Instant nowInstant() { return now; }
+        @Override public long nanoTime() { return now.getEpochSecond() * 1_000_000_000L + now.getNano(); }
+        void advanceSeconds(long seconds) { now = now.plusSeconds(seconds); }
+    }
+}
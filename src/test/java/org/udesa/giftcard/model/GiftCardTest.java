@@ -101,4 +101,17 @@ public class GiftCardTest {
         GiftCard c = newCard("CARD-XYZ", "5");
         assertEquals("CARD-XYZ", c.id());
     }
+
+    @Test public void test10CopyEsIndependienteDelOriginal() {
+        GiftCard c = newCard("CARD-1", "100.00");
+        c.claim("alice");
+        c.charge("M-001", new BigDecimal("10.00"), "compra", Instant.now());
+
+        GiftCard copy = c.copy();
+        c.charge("M-001", new BigDecimal("5.00"), "compra", Instant.now());
+
+        assertEquals("alice", copy.ownerUserId());
+        assertEquals(new BigDecimal("90.00"), copy.balance());
+        assertEquals(1, copy.movements().size());
+    }
 }
@@ -0,0 +1,225 @@
+package org.udesa.giftcard.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MerchantRateLimiterTest {
+
+    private TestClock clock;
+    private MerchantRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new TestClock();
+        // 10 cargos por segundo, ráfaga de 3
+        limiter = MerchantRateLimiter.allowing(10, 3, 0, clock);
+    }
+
+    @Test public void test01AdmiteHastaLaRafagaYLuegoRechaza() {
+        admitAndRelease("M-001");
+        admitAndRelease("M-001");
+        admitAndRelease("M-001");
+
+        assertThrowsLike(() -> limiter.admit("M-001"), MerchantRateLimiter.RateLimitExceeded);
+        assertEquals(1, limiter.rejectedChargesOf("M-001"));
+    }
+
+    @Test public void test02ElBucketSeRecargaConElTiempo() {
+        admitAndRelease("M-001");
+        admitAndRelease("M-001");
+        admitAndRelease("M-001");
+        assertThrowsLike(() -> limiter.admit("M-001"), MerchantRateLimiter.RateLimitExceeded);
+
+        clock.advanceMillis(100); // un permiso a 10/s
+        admitAndRelease("M-001");
+        assertThrowsLike(() -> limiter.admit("M-001"), MerchantRateLimiter.RateLimitExceeded);
+    }
+
+    @Test public void test03UnMerchantRuidosoNoConsumeElBucketDeOtro() {
+        for (int i = 0; i < 100; i++) {
+            try { admitAndRelease("M-001"); } catch (RuntimeException ignored) { }
+        }
+        admitAndRelease("M-002");
+        assertEquals(97, limiter.rejectedChargesOf("M-001"));
+        assertEquals(0, limiter.rejectedChargesOf("M-002"));
+    }
+
+    @Test public void test04LimiteGlobalDeConcurrencia() {
+        MerchantRateLimiter limited = MerchantRateLimiter.allowing(10, 3, 1, clock);
+        limited.admit("M-001");
+
+        assertThrowsLike(() -> limited.admit("M-002"), MerchantRateLimiter.TooManyConcurrentCharges);
+        assertEquals(1, limited.rejectedByConcurrencyLimit());
+
+        limited.release();
+        limited.admit("M-002");
+        assertEquals(1, limited.chargesInFlight());
+    }
+
+    @Test public void test05UnlimitedAdmiteSiempre() {
+        MerchantRateLimiter unlimited = MerchantRateLimiter.unlimited();
+        for (int i = 0; i < 1_000; i++) {
+            unlimited.admit("M-001");
+            unlimited.release();
+        }
+        assertEquals(0, unlimited.rejectedChargesOf("M-001"));
+    }
+
+    @Test public void test06FacadeRechazaAntesDeBuscarLaCard() {
+        FacadeGiftCard facade = facadeWith(limiter);
+        String token = facade.loginFor("alice", "pwd");
+        facade.claimCardIdentifiedAs(token, "CARD-1");
+
+        for (int i = 0; i < 3; i++)
+            facade.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("1.00"));
+
+        // card inexistente: igual gana el rechazo por rate limit
+        assertThrowsLike(
+                () -> facade.chargeNotifiedByMerchant("M-001", "alice", "NO-CARD", new BigDecimal("1.00")),
+                FacadeGiftCard.merchantRateLimitExceededErrorDescription
+        );
+        assertEquals(1, facade.rejectedChargesOfMerchant("M-001"));
+        assertEquals(3, facade.movementsOfCardIdentifiedAs(token, "CARD-1").size());
+    }
+
+    @Test public void test07FacadeLiberaElLugarAunqueElCargoFalle() {
+        MerchantRateLimiter limited = MerchantRateLimiter.allowing(10, 3, 1, clock);
+        FacadeGiftCard facade = facadeWith(limited);
+
+        assertThrowsLike(
+                () -> facade.chargeNotifiedByMerchant("M-001", "alice", "NO-CARD", new BigDecimal("1.00")),
+                FacadeGiftCard.invalidCardIdErrorDescription
+        );
+        assertEquals(0, limited.chargesInFlight());
+    }
+
+    @Test public void test08RechazoPorConcurrenciaNoGastaTokensDelMerchant() {
+        MerchantRateLimiter limited = MerchantRateLimiter.allowing(10, 1, 1, clock);
+        limited.admit("M-001");
+
+        for (int i = 0; i < 5; i++)
+            assertThrowsLike(() -> limited.admit("M-002"), MerchantRateLimiter.TooManyConcurrentCharges);
+
+        limited.release();
+        limited.admit("M-002");
+        assertEquals(0, limited.rejectedChargesOf("M-002"));
+    }
+
+    @Test public void test09UnMerchantSinBucketPrevioTambienQuedaLimitado() {
+        for (int i = 0; i < 3; i++) admitAndRelease("M-NUEVO");
+        assertThrowsLike(() -> limiter.admit("M-NUEVO"), MerchantRateLimiter.RateLimitExceeded);
+        assertEquals(1, limiter.rejectedChargesOf("M-NUEVO"));
+    }
+
+    @Test public void test10FacadeExponeLosRechazosPorConcurrencia() {
+        MerchantRateLimiter limited = MerchantRateLimiter.allowing(10, 3, 1, clock);
+        FacadeGiftCard facade = facadeWith(limited);
+        limited.admit("M-002");   // otro cargo en curso
+
+        assertThrowsLike(
+                () -> facade.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("1.00")),
+                FacadeGiftCard.tooManyConcurrentChargesErrorDescription
+        );
+        assertEquals(1, facade.rejectedChargesByConcurrencyLimit());
+        assertEquals(0, facade.rejectedChargesOfMerchant("M-001"));
+    }
+
+    // Benchmark chico, con un único caller porque el facade no es thread-safe: costo del limiter en un
+    // cargo admitido y latencia del merchant tranquilo con 50 intentos del ruidoso entre cada cargo suyo
+    @Test public void test11MerchantTranquiloMantieneSuLatenciaConUnoRuidoso() {
+        FacadeGiftCard unlimited = facadeWith(MerchantRateLimiter.unlimited());
+        FacadeGiftCard limited = facadeWith(MerchantRateLimiter.allowing(1_000, 10, 0, clock));
+        String unlimitedToken = claimBothCards(unlimited);
+        String token = claimBothCards(limited);
+
+        int rounds = 20_000;
+        int floodPerCharge = 50;
+        long[] withoutLimiter = new long[rounds];
+        long[] quiet = new long[rounds];
+        long[] withNoise = new long[rounds];
+        long rejectedNanos = 0;
+        for (int i = 0; i < rounds; i++) {
+            clock.advanceMillis(1);   // el tranquilo cobra a 1000/s, justo su límite
+            withoutLimiter[i] = timedCharge(unlimited);
+            quiet[i] = timedCharge(limited);
+        }
+        for (int i = 0; i < rounds; i++) {
+            clock.advanceMillis(1);
+            long start = System.nanoTime();
+            for (int j = 0; j < floodPerCharge; j++) {
+                try { limited.chargeNotifiedByMerchant("M-002", "alice", "CARD-2", new BigDecimal("0.01")); }
+                catch (RuntimeException ignored) { }
+            }
+            rejectedNanos += System.nanoTime() - start;
+            withNoise[i] = timedCharge(limited);
+        }
+
+        long rejected = limited.rejectedChargesOfMerchant("M-002");
+        System.out.printf("merchant charge p50/p99 ns: sin limiter=%d/%d, con limiter=%d/%d, con ruido=%d/%d; "
+                        + "intento ruidoso promedio=%dns, rechazos=%d%n",
+                percentile(withoutLimiter, 50), percentile(withoutLimiter, 99),
+                percentile(quiet, 50), percentile(quiet, 99),
+                percentile(withNoise, 50), percentile(withNoise, 99),
+                rejectedNanos / ((long) rounds * floodPerCharge), rejected);
+        // el tranquilo no pierde ningún cargo; el ruidoso pasa su ráfaga y uno por cada milisegundo siguiente
+        assertEquals(0, limited.rejectedChargesOfMerchant("M-001"));
+        assertEquals(2 * rounds, limited.movementsOfCardIdentifiedAs(token, "CARD-1").size());
+        assertEquals(rounds - 1 + 10, limited.movementsOfCardIdentifiedAs(token, "CARD-2").size());
+        assertEquals((long) rounds * floodPerCharge - (rounds - 1 + 10), rejected);
+        assertEquals(rounds, unlimited.movementsOfCardIdentifiedAs(unlimitedToken, "CARD-1").size());
+    }
+
+    // ===== helpers =====
+    private void admitAndRelease(String merchantId) {
+        limiter.admit(merchantId);
+        limiter.release();
+    }
+
+    private static FacadeGiftCard facadeWith(MerchantRateLimiter rateLimiter) {
+        Map<String, String> users = new HashMap<>(Map.of("alice", "pwd"));
+        Map<String, GiftCard> cards = new HashMap<>();
+        cards.put("CARD-1", GiftCard.identifiedWithBalance("CARD-1", new BigDecimal("100000.00")));
+        cards.put("CARD-2", GiftCard.identifiedWithBalance("CARD-2", new BigDecimal("100000.00")));
+        return new FacadeGiftCard(users, cards, Set.of("M-001", "M-002"), new Clock(), rateLimiter);
+    }
+
+    private static String claimBothCards(FacadeGiftCard facade) {
+        String token = facade.loginFor("alice", "pwd");
+        facade.claimCardIdentifiedAs(token, "CARD-1");
+        facade.claimCardIdentifiedAs(token, "CARD-2");
+        return token;
+    }
+
+    private static long timedCharge(FacadeGiftCard facade) {
+        long start = System.nanoTime();
+        facade.chargeNotifiedByMerchant("M-001", "alice", "CARD-1", new BigDecimal("0.01"));
+        return System.nanoTime() - start;
+    }
+
+    private static long percentile(long[] samples, int p) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)];
+    }
+
+    private void assertThrowsLike(Executable executable, String message) {
+        assertEquals(message, assertThrows(Exception.class, executable).getMessage());
+    }
+
+    // ===== Test clock seteable =====
+    static class TestClock extends Clock {
+        private long nanos = 0;
+
+        @Override public long nanoTime() { return nanos; }
+        void advanceMillis(long millis) { nanos += millis * 1_000_000L; }
+    }
+}
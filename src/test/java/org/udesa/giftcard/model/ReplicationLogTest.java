@@ -0,0 +1,104 @@
+package org.udesa.giftcard.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicationLogTest {
+
+    private static final Instant WHEN = Instant.parse("2025-01-01T12:00:00.123456789Z");
+
+    @Test public void test01LogNuevoEstaVacio() {
+        ReplicationLog log = ReplicationLog.inMemory(1024);
+        assertEquals(log.start(), log.end());
+        assertEquals(0, log.eventCount());
+        assertEquals(log.start(), log.readFrom(log.start(), e -> fail("no events expected")));
+    }
+
+    @Test public void test02LeeLosEventosEnElOrdenEnQueSeEscribieron() {
+        ReplicationLog log = ReplicationLog.inMemory(1024);
+        log.append(ReplicationEvent.claim("CARD-1", "alice", WHEN));
+        log.append(ReplicationEvent.charge("CARD-1", "M-001", new BigDecimal("12.50"), "café", WHEN));
+
+        List<ReplicationEvent> events = new ArrayList<>();
+        long next = log.readFrom(log.start(), events::add);
+
+        assertEquals(log.end(), next);
+        assertEquals(2, log.eventCount());
+        assertEquals(2, events.size());
+        assertEquals("alice", events.get(0).userOrMerchantId());
+        assertEquals(WHEN, events.get(0).when());
+        assertEquals("M-001", events.get(1).userOrMerchantId());
+        assertEquals(new BigDecimal("12.50"), events.get(1).amount());
+        assertEquals("café", events.get(1).description());
+    }
+
+    @Test public void test03LeerDesdeUnOffsetSoloDevuelveLosNuevos() {
+        ReplicationLog log = ReplicationLog.inMemory(1024);
+        log.append(ReplicationEvent.claim("CARD-1", "alice", WHEN));
+        long next = log.readFrom(log.start(), e -> { });
+
+        log.append(ReplicationEvent.claim("CARD-2", "bob", WHEN));
+        List<ReplicationEvent> events = new ArrayList<>();
+        log.readFrom(next, events::add);
+
+        assertEquals(1, events.size());
+        assertEquals("CARD-2", events.get(0).cardId());
+    }
+
+    @Test public void test04ReadRecordsFromInformaElOffsetSiguienteDeCadaEvento() {
+        ReplicationLog log = ReplicationLog.inMemory(1024);
+        log.append(ReplicationEvent.claim("CARD-1", "alice", WHEN));
+        long afterFirst = log.end();
+        log.append(ReplicationEvent.claim("CARD-2", "bob", WHEN));
+
+        List<Long> offsets = new ArrayList<>();
+        log.readRecordsFrom(log.start(), (event, next) -> offsets.add(next));
+
+        assertEquals(List.of(afterFirst, log.end()), offsets);
+    }
+
+    @Test public void test05SiUnEventoNoEntraElLogSeDetieneSinFallar() {
+        ReplicationLog log = ReplicationLog.inMemory(64);
+        assertTrue(log.append(ReplicationEvent.claim("CARD-1", "alice", WHEN)));
+        long end = log.end();
+
+        assertFalse(log.append(ReplicationEvent.claim("CARD-2", "bob", WHEN)));
+        assertTrue(log.hasStopped());
+        // detenido no acepta más, aunque el siguiente entrara
+        assertFalse(log.append(ReplicationEvent.claim("C", "b", WHEN)));
+        assertEquals(1, log.eventCount());
+        assertEquals(end, log.end());
+    }
+
+    @Test public void test06UnFollowerAbreElArchivoQueEscribeElLeader() throws IOException {
+        Path file = Files.createTempFile("giftcard-replication", ".log");
+        try {
+            ReplicationLog leader = ReplicationLog.createAt(file, 4096);
+            ReplicationLog follower = ReplicationLog.openAt(file);
+
+            leader.append(ReplicationEvent.claim("CARD-1", "alice", WHEN));
+
+            List<ReplicationEvent> events = new ArrayList<>();
+            follower.readFrom(follower.start(), events::add);
+            assertEquals(1, events.size());
+            assertEquals("CARD-1", events.get(0).cardId());
+
+            // el follower lo mapea de solo lectura
+            assertThrows(ReadOnlyBufferException.class,
+                    () -> follower.append(ReplicationEvent.claim("CARD-2", "bob", WHEN)));
+            assertEquals(1, leader.eventCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -69,6 +69,13 @@ public class SessionTest {
         );
     }
 
+    @Test public void test06LoginSinPasswordFallaAunParaUnUsuarioInexistente() {
+        assertThrowsLike(
+                () -> session.loginFor("ghost", null),
+                Session.invalidUserAndOrPasswordErrorDescription
+        );
+    }
+
 
     private void assertThrowsLike(Executable executable, String message) {
         assertEquals(message, assertThrows(Exception.class, executable).getMessage());